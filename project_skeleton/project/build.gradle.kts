@@ -33,3 +33,58 @@ application {
     // Define the main class for the application.
     mainClass.set("compiler.Compiler")
 }
+
+// AppCDS: a training run of the compiler on a sample program dumps the loaded classes into a dynamic archive,
+// which `runWithCds` maps at startup instead of loading and verifying the classes again.
+// CDS only archives classes loaded from jars, hence the jar on the classpath rather than the classes directory.
+val cdsArchive = layout.buildDirectory.file("cds/compiler.jsa")
+val cdsClasspath = files(tasks.jar) + configurations.runtimeClasspath.get()
+
+tasks.register<JavaExec>("cdsArchive") {
+    description = "Dumps a dynamic AppCDS archive of the compiler classes."
+    group = "application"
+    classpath = cdsClasspath
+    mainClass.set(application.mainClass)
+    args(file("samples/training.lang"))
+    jvmArgs("-XX:ArchiveClassesAtExit=${cdsArchive.get().asFile}")
+    inputs.file("samples/training.lang")
+    outputs.file(cdsArchive)
+    doFirst { cdsArchive.get().asFile.parentFile.mkdirs() }
+}
+
+tasks.register<JavaExec>("runWithCds") {
+    description = "Runs the compiler using the AppCDS archive."
+    group = "application"
+    dependsOn("cdsArchive")
+    classpath = cdsClasspath
+    mainClass.set(application.mainClass)
+    jvmArgs("-XX:SharedArchiveFile=${cdsArchive.get().asFile}", "-Xshare:auto")
+}
+
+// Time-bounded run of the lexer fuzzing harness with a random seed (`test` runs a fixed number of programs from a
+// fixed seed): gradle fuzzLexer -PfuzzSeconds=600 [-PfuzzSeed=42]
+tasks.register<Test>("fuzzLexer") {
+    description = "Runs the lexer fuzzing harness for a bounded time."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    filter { includeTestsMatching("TestLexerFuzz") }
+    systemProperty("lexer.fuzz.seconds", providers.gradleProperty("fuzzSeconds").getOrElse("60"))
+    systemProperty("lexer.fuzz.seed", providers.gradleProperty("fuzzSeed").getOrElse(System.nanoTime().toString()))
+    outputs.upToDateWhen { false }
+}
+
+// Scalability suite of the lexer up to large inputs, including the wall-clock checks left out of `test`:
+// gradle scalabilityTest -PmaxCharacters=1073741824 [-PbytesPerToken=1024]
+tasks.register<Test>("scalabilityTest") {
+    description = "Runs the lexer scalability suite on inputs up to -PmaxCharacters characters (2^30 by default)."
+    group = "verification"
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    filter { includeTestsMatching("TestLexerScalability") }
+    systemProperty("lexer.scalability.maxCharacters", providers.gradleProperty("maxCharacters").getOrElse("1073741824"))
+    systemProperty("lexer.scalability.checkTime", "true")
+    providers.gradleProperty("bytesPerToken").orNull?.let { systemProperty("lexer.scalability.bytesPerToken", it) }
+    testLogging.showStandardStreams = true
+    outputs.upToDateWhen { false }
+}
@@ -3,8 +3,80 @@
  */
 package compiler;
 
+import compiler.Lexer.Lexer;
+import compiler.Lexer.Symbol;
+import compiler.Stats.CompilerStatistics;
+import compiler.Stats.PhaseStatistics;
+import compiler.Symbols.EOFSymbol;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 public class Compiler {
-    public static void main(String[] args) {
-        System.out.println("Hello from the compiler !");
+    public static void main(String[] args) throws IOException {
+        long mainStartNanos = System.nanoTime();
+        boolean printStatistics = false;
+        String path = null;
+        for (String arg : args) {
+            if (arg.equals("-Xstats")) {
+                printStatistics = true;
+            } else {
+                path = arg;
+            }
+        }
+        if (path == null) {
+            System.out.println("Hello from the compiler !");
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(Path.of(path))) {
+            Lexer lexer = new Lexer(reader);
+            if (printStatistics) {
+                lexWithStatistics(lexer, path, mainStartNanos).report(System.err);
+            } else {
+                lex(lexer, null);
+            }
+        }
+    }
+
+    /**
+     * Reads all the Symbols of @lexer until the EOFSymbol and measures it (-Xstats). The first Symbol is read before
+     * the statistics are created, so that the time to it does not include loading JFR and JMX. The lexing phase counts
+     * all the Symbols and its wall time includes reading the first one, whitespaces and comments ahead of it included.
+     * @param lexer The Lexer to drain
+     * @param file The name of the lexed file
+     * @param mainStartNanos System.nanoTime() at the start of main
+     * @return the statistics of the lexing
+     * @throws IOException on Reader
+     */
+    public static CompilerStatistics lexWithStatistics(Lexer lexer, String file, long mainStartNanos) throws IOException {
+        long lexingStartNanos = System.nanoTime();
+        Symbol first = lexer.getNextSymbol();
+        long firstSymbolNanos = System.nanoTime(); // Before the `new` below initialises the statistics classes
+        CompilerStatistics statistics = new CompilerStatistics(file, mainStartNanos, firstSymbolNanos);
+        statistics.countSymbol(first);
+        PhaseStatistics phase = statistics.startPhase("lexing", firstSymbolNanos - lexingStartNanos);
+        long nbOfSymbols = 1 + (first instanceof EOFSymbol ? 0 : lex(lexer, statistics));
+        phase.stop(nbOfSymbols);
+        return statistics;
+    }
+
+    /**
+     * Reads all the Symbols of @lexer until the EOFSymbol.
+     * @param lexer The Lexer to drain
+     * @param statistics The statistics counting the Symbols, null if none
+     * @return the number of Symbols read, EOFSymbol included
+     * @throws IOException on Reader
+     */
+    private static long lex(Lexer lexer, CompilerStatistics statistics) throws IOException {
+        long nbOfSymbols = 0;
+        Symbol symbol;
+        do {
+            symbol = lexer.getNextSymbol();
+            nbOfSymbols++;
+            if (statistics != null) statistics.countSymbol(symbol);
+        } while (!(symbol instanceof EOFSymbol));
+        return nbOfSymbols;
     }
 }
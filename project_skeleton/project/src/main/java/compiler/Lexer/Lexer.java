@@ -72,18 +72,16 @@ public class Lexer {
      * @throws IOException on Reader
      */
     private boolean initState(LexerState state, StringBuilder stringBuilder) throws IOException, UnauthorizedLangTokenException{
-        // Verify if EOF or do some cleaning
+        // Do some cleaning, iteratively: one stack frame per comment line would overflow on large generated sources
         int character = reader.read();
+        while (skipIfWhiteSpace(character) || skipIfComment(character)) {
+            character = reader.read();
+        }
+        // Verify if EOF
         if (character == -1){
             state.limitPossibilityTo(LexerState.EOF);
             return false;
         }
-        if (skipIfWhiteSpace(character)) {
-            return initState(state, stringBuilder);
-        }
-        if (skipIfComment(character)){
-            return initState(state, stringBuilder);
-        }
 
         stringBuilder.append((char) character); //If not WhiteSpace, character is always added to the StringBuilder
 
@@ -195,6 +193,9 @@ public class Lexer {
     private void putLongestSpecialSymbol(int character, StringBuilder stringBuilder) throws IOException{
         if (SpecialSymbol.maybeComplexSpecialSymbol(character)){
             character = reader.read();
+            if (character == -1) {
+                return; // reader.unread(-1) would push back the character (char) -1 instead of the end of file
+            }
             stringBuilder.append((char) character);
             if(!SpecialSymbol.isComplexSpecialSymbol(stringBuilder.toString())) {
                 stringBuilder.deleteCharAt(stringBuilder.length() - 1);
@@ -0,0 +1,108 @@
+package compiler.Stats;
+
+import compiler.Lexer.Symbol;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Collects the statistics of the compilation of one file (-Xstats): one PhaseStatistics per phase, the number of
+ * Symbols per Symbol subclass and the time needed to get the first Symbol.
+ */
+public class CompilerStatistics {
+    private final String file;
+    private final long firstSymbolNanos;
+    private final long firstSymbolUptimeMillis;
+    private final FileEvent event = new FileEvent();
+    private final List<PhaseStatistics> phases = new ArrayList<>();
+    private final Map<String, Long> symbolCounts = new TreeMap<>();
+    private long nbOfSymbols = 0;
+
+    /**
+     * Creates the statistics of @file once its first Symbol was read: creating them loads JFR and JMX, which must not
+     * be counted in the time to the first Symbol.
+     * @param file name of the compiled file
+     * @param mainStartNanos System.nanoTime() at the start of main
+     * @param firstSymbolNanos System.nanoTime() once the first Symbol was read
+     */
+    public CompilerStatistics(String file, long mainStartNanos, long firstSymbolNanos) {
+        this.file = file;
+        this.firstSymbolNanos = firstSymbolNanos - mainStartNanos;
+        this.firstSymbolUptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime()
+                - (System.nanoTime() - firstSymbolNanos) / 1_000_000;
+        event.file = file;
+        event.begin();
+    }
+
+    /**
+     * Starts measuring a new phase.
+     * @param name name of the phase, as shown in the report
+     * @return the started phase, to be stopped by the caller
+     */
+    public PhaseStatistics startPhase(String name) {
+        return startPhase(name, 0);
+    }
+
+    /**
+     * Starts measuring a new phase that already ran for @earlierWallNanos before these statistics were created, e.g.
+     * to read the first Symbol. That time is added to its wall time, but not to its CPU time, allocated bytes and JFR
+     * event: measuring them earlier would load JMX and JFR.
+     * @param name name of the phase, as shown in the report
+     * @param earlierWallNanos wall time of the phase before this call, in nanoseconds
+     * @return the started phase, to be stopped by the caller
+     */
+    public PhaseStatistics startPhase(String name, long earlierWallNanos) {
+        PhaseStatistics phase = new PhaseStatistics(name, file);
+        phases.add(phase);
+        phase.start(earlierWallNanos);
+        return phase;
+    }
+
+    /**
+     * Counts @symbol under its Symbol subclass.
+     * @param symbol a Symbol returned by the Lexer
+     */
+    public void countSymbol(Symbol symbol) {
+        nbOfSymbols++;
+        symbolCounts.merge(symbol.getClass().getSimpleName(), 1L, Long::sum);
+    }
+
+    public long getNbOfSymbols() {
+        return nbOfSymbols;
+    }
+
+    public Map<String, Long> getSymbolCounts() {
+        return symbolCounts;
+    }
+
+    public List<PhaseStatistics> getPhases() {
+        return phases;
+    }
+
+    /**
+     * Commits the JFR event of the file and prints the report on @out.
+     * @param out stream receiving the report
+     */
+    public void report(PrintStream out) {
+        event.tokens = nbOfSymbols;
+        event.commit();
+
+        out.println("Statistics for " + file);
+        out.printf("  first symbol: %.3f ms after main, %d ms after JVM start%n",
+                firstSymbolNanos / 1e6, firstSymbolUptimeMillis);
+        out.printf("  %-10s %12s %12s %14s %10s %14s%n", "phase", "wall (ms)", "cpu (ms)", "allocated (B)", "symbols", "symbols/s");
+        for (PhaseStatistics phase : phases) {
+            out.printf("  %-10s %12.3f %12.3f %14d %10d %14.0f%n", phase.getName(), phase.getWallNanos() / 1e6,
+                    phase.getCpuNanos() / 1e6, phase.getAllocatedBytes(), phase.getTokens(), phase.tokensPerSecond());
+        }
+        out.println("  (cpu and allocated are counted from the first symbol on)");
+        out.println("  symbols per kind:");
+        for (Map.Entry<String, Long> entry : symbolCounts.entrySet()) {
+            out.printf("    %-22s %10d%n", entry.getKey(), entry.getValue());
+        }
+    }
+}
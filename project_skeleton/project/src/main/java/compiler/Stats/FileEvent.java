@@ -0,0 +1,22 @@
+package compiler.Stats;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR event covering the whole compilation of one file. Only recorded when a JFR recording is running.
+ */
+@Name("compiler.File")
+@Label("Compiled File")
+@Category("Compiler")
+@Description("The compilation of a file, from its first Symbol on")
+class FileEvent extends Event {
+    @Label("File")
+    String file;
+
+    @Label("Tokens")
+    long tokens;
+}
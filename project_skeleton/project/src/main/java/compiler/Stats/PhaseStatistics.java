@@ -0,0 +1,74 @@
+package compiler.Stats;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Wall time, CPU time and allocated bytes of one phase, measured on the current thread between start() and stop().
+ * The wall time may include time spent before start(), see CompilerStatistics.startPhase(String, long).
+ */
+public class PhaseStatistics {
+    private static final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final String name;
+    private final PhaseEvent event = new PhaseEvent();
+    private long wallNanos;
+    private long cpuNanos;
+    private long allocatedBytes;
+    private long tokens;
+
+    PhaseStatistics(String name, String file) {
+        this.name = name;
+        event.phase = name;
+        event.file = file;
+    }
+
+    void start(long earlierWallNanos) {
+        event.begin();
+        allocatedBytes = threadMXBean.getCurrentThreadAllocatedBytes();
+        cpuNanos = threadMXBean.getCurrentThreadCpuTime();
+        wallNanos = System.nanoTime() - earlierWallNanos;
+    }
+
+    /**
+     * Ends the measurement of the phase and commits its JFR event.
+     * @param tokens number of Symbols handled by the phase
+     */
+    public void stop(long tokens) {
+        wallNanos = System.nanoTime() - wallNanos;
+        cpuNanos = threadMXBean.getCurrentThreadCpuTime() - cpuNanos;
+        allocatedBytes = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBytes;
+        this.tokens = tokens;
+        event.tokens = tokens;
+        event.commit();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getWallNanos() {
+        return wallNanos;
+    }
+
+    public long getCpuNanos() {
+        return cpuNanos;
+    }
+
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public long getTokens() {
+        return tokens;
+    }
+
+    /**
+     * Gives the throughput of the phase.
+     * @return tokens per second of wall time, 0 if the phase took no measurable time
+     */
+    public double tokensPerSecond() {
+        if (wallNanos == 0) return 0;
+        return tokens * 1e9 / wallNanos;
+    }
+}
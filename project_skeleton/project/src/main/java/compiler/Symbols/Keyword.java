@@ -3,15 +3,12 @@ package compiler.Symbols;
 import compiler.Lexer.Symbol;
 
 import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
 
 public class Keyword extends Symbol {
+    // Sorted: isAKeyword() searches it by dichotomy
     private static final String[] keywords = new String[]{
-            "const","record", "var", "val", "proc", "for", "to", "by", "while", "if",
-            "else", "return", "and", "or"
+            "and", "by", "const", "else", "for", "if", "or", "proc", "record", "return", "to", "val", "var", "while"
     };
-    private static final Set<String> keywordsSet = new HashSet<>(Arrays.asList(keywords));
     public Keyword(String value){ this.value = value; }
 
     /**
@@ -20,7 +17,7 @@ public class Keyword extends Symbol {
      * @return true if @candidate is a Keyword, false otherwise
      */
     public static boolean isAKeyword(String candidate){
-        return keywordsSet.contains(candidate);
+        return Arrays.binarySearch(keywords, candidate) >= 0;
     }
 
     public static String[] getKeywords(){
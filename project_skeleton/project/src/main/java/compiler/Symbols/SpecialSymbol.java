@@ -3,16 +3,11 @@ package compiler.Symbols;
 import compiler.Lexer.Symbol;
 import compiler.Lexer.UnauthorizedLangTokenException;
 
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.List;
 
 public abstract class SpecialSymbol extends Symbol {
 
-    private static final Character[] singleSpecialSymbol = new Character[]{'=', '+', '-', '*', '/', '%', '<', '>', '(', ')', '{', '}', '[', ']', '.', ';', ','};
-    private static final Set<Character> singleSpecialSymbolSet = new HashSet<>(Arrays.asList(singleSpecialSymbol));
-    private static final String[] complexSpecialSymbol = new String[]{"==", "<>", "<=", ">="};
-    private static final Set<String> complexSpecialSymbolSet = new HashSet<>(Arrays.asList(complexSpecialSymbol));
     public static Symbol createSymbol(String string){
         return switch (string)
         {
@@ -22,11 +17,33 @@ public abstract class SpecialSymbol extends Symbol {
         };
     }
 
+    /**
+     * Lists the single SpecialSymbols. Derived from isSpecialSymbol(), the only definition of them, when called:
+     * nothing is built when the class is initialised.
+     * @return the single SpecialSymbols
+     */
     public static Character[] getSingleSpecialSymbol(){
-        return singleSpecialSymbol;
+        List<Character> singleSpecialSymbol = new ArrayList<>();
+        for (char candidate = 0; candidate < 128; candidate++) {
+            if (isSpecialSymbol(candidate)) singleSpecialSymbol.add(candidate);
+        }
+        return singleSpecialSymbol.toArray(new Character[0]);
     }
+
+    /**
+     * Lists the complex SpecialSymbols. Derived from isComplexSpecialSymbol(), the only definition of them, when called.
+     * @return the complex SpecialSymbols
+     */
     public static String[] getComplexSpecialSymbol(){
-        return complexSpecialSymbol;
+        List<String> complexSpecialSymbol = new ArrayList<>();
+        Character[] singleSpecialSymbol = getSingleSpecialSymbol();
+        for (Character first : singleSpecialSymbol) {
+            for (Character second : singleSpecialSymbol) {
+                String candidate = "" + first + second;
+                if (isComplexSpecialSymbol(candidate)) complexSpecialSymbol.add(candidate);
+            }
+        }
+        return complexSpecialSymbol.toArray(new String[0]);
     }
 
     /**
@@ -35,7 +52,12 @@ public abstract class SpecialSymbol extends Symbol {
      * @return true if @candidate is a SpecialSymbol, false otherwise
      */
     public static boolean isSpecialSymbol(int candidate){
-        return singleSpecialSymbolSet.contains((char) candidate);
+        // Compiled to a tableswitch: no boxing of the character and no Set to build at class initialisation.
+        return switch (candidate)
+        {
+            case '=', '+', '-', '*', '/', '%', '<', '>', '(', ')', '{', '}', '[', ']', '.', ';', ',' -> true;
+            default -> false;
+        };
     }
 
     /**
@@ -53,6 +75,10 @@ public abstract class SpecialSymbol extends Symbol {
      * @return true if @candidate is a complex SpecialSymbol, false otherwise
      */
     public static boolean isComplexSpecialSymbol(String candidate){
-        return complexSpecialSymbolSet.contains(candidate);
+        return switch (candidate)
+        {
+            case "==", "<>", "<=", ">=" -> true;
+            default -> false;
+        };
     }
 }
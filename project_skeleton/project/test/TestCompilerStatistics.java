@@ -0,0 +1,55 @@
+import compiler.Compiler;
+import compiler.Lexer.Lexer;
+import compiler.Stats.CompilerStatistics;
+import compiler.Stats.PhaseStatistics;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+
+public class TestCompilerStatistics {
+    @Test
+    public void testStatistics_symbolCounts() throws IOException {
+        Lexer lexer = new Lexer(new StringReader("var x int = 1; x = x + 2.5;"));
+        CompilerStatistics statistics = Compiler.lexWithStatistics(lexer, "test", System.nanoTime());
+
+        assertEquals(13, statistics.getNbOfSymbols());
+        Map<String, Long> symbolCounts = statistics.getSymbolCounts();
+        assertEquals(Long.valueOf(1), symbolCounts.get("Keyword"));
+        assertEquals(Long.valueOf(4), symbolCounts.get("Identifier"));
+        assertEquals(Long.valueOf(3), symbolCounts.get("OperatorSpecialSymbol"));
+        assertEquals(Long.valueOf(1), symbolCounts.get("NaturalNumberValue"));
+        assertEquals(Long.valueOf(1), symbolCounts.get("RealNumberValue"));
+        assertEquals(Long.valueOf(2), symbolCounts.get("SyntaxSpecialSymbol"));
+        assertEquals(Long.valueOf(1), symbolCounts.get("EOFSymbol"));
+        assertEquals(7, symbolCounts.size());
+    }
+
+    @Test
+    public void testStatistics_lexingPhase() throws IOException {
+        Lexer lexer = new Lexer(new StringReader("var x int = 1;"));
+        CompilerStatistics statistics = Compiler.lexWithStatistics(lexer, "test", System.nanoTime());
+
+        assertEquals(1, statistics.getPhases().size());
+        PhaseStatistics phase = statistics.getPhases().get(0);
+        assertEquals("lexing", phase.getName());
+        // The first Symbol is read before the statistics exist, but belongs to the phase
+        assertEquals(7, phase.getTokens());
+        assertEquals(7, statistics.getNbOfSymbols());
+        assertTrue(phase.getWallNanos() >= 0);
+    }
+
+    @Test
+    public void testStatistics_emptyInput() throws IOException {
+        Lexer lexer = new Lexer(new StringReader("  // nothing\n"));
+        CompilerStatistics statistics = Compiler.lexWithStatistics(lexer, "test", System.nanoTime());
+
+        assertEquals(1, statistics.getNbOfSymbols());
+        assertEquals(Long.valueOf(1), statistics.getSymbolCounts().get("EOFSymbol"));
+        assertEquals(1, statistics.getPhases().get(0).getTokens());
+    }
+}
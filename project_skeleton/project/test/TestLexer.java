@@ -398,6 +398,25 @@ public class TestLexer {
             }
         }
     }
+    @Test
+    public void testCornerCase_ComplexSpecialSymbolStartAtEOF() throws IOException {
+        // '=', '<' and '>' look one character ahead for "==", "<>", "<=" and ">=", even at the end of the input
+        for (String operator : new String[]{"=", "<", ">"}) {
+            Symbol[] expected = new Symbol[]{
+                    new Identifier("a"), new OperatorSpecialSymbol(operator), new EOFSymbol()
+            };
+            correspondenceHelperFunction("a " + operator, expected);
+        }
+    }
+    @Test
+    public void testCornerCase_ManyCommentLines() throws IOException {
+        String input = "start\n" + "// generated comment\n".repeat(200_000) + "end";
+        Symbol[] expected = new Symbol[]{
+                new Identifier("start"), new Identifier("end"), new EOFSymbol()
+        };
+        correspondenceHelperFunction(input, expected);
+    }
+
     public void correspondenceHelperFunction(String input, Symbol[] expectedSymbols) throws IOException {
         StringReader reader = new StringReader(input);
         Lexer lexer = new Lexer(reader);
@@ -0,0 +1,557 @@
+import compiler.Lexer.Lexer;
+import compiler.Lexer.Symbol;
+import compiler.Lexer.UnauthorizedLangTokenException;
+import compiler.Symbols.*;
+import org.junit.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.*;
+
+/**
+ * Fuzzing harness guarding the tokenization of the Lexer against regressions (e.g. when optimizing it).
+ * Programs are generated from the grammar of the language together with the Symbols they must give, then rendered
+ * with random whitespaces and comments between the tokens. Mutated programs must only ever give Symbols until the
+ * EOFSymbol or an UnauthorizedLangTokenException. Any failure is minimized before being reported.
+ * By default (the test task) the run is deterministic: lexer.fuzz.programs programs generated from a fixed seed. The
+ * fuzzLexer task instead runs for lexer.fuzz.seconds with a random lexer.fuzz.seed, reported on failure.
+ */
+public class TestLexerFuzz {
+    private static final long SEED = Long.getLong("lexer.fuzz.seed", 2132);
+    private static final long PROGRAMS = Long.getLong("lexer.fuzz.programs", 20_000);
+    private static final long SECONDS = Long.getLong("lexer.fuzz.seconds", 0); // 0: bounded by PROGRAMS instead
+    private static final String MUTATION_ALPHABET = "az_Z09.\"\\ \t\n/=<>+-*%(){}[];,#$!&";
+
+    /**
+     * A token of a generated program.
+     * @param text its source code
+     * @param expected the Symbol the Lexer must give for it
+     * @param separator whitespaces and/or comment written before it
+     */
+    private record Token(String text, Symbol expected, String separator) {
+        Token withSeparator(String newSeparator) {
+            return new Token(text, expected, newSeparator);
+        }
+    }
+
+    @Test
+    public void testFuzz_generatedPrograms() {
+        Random random = new Random(SEED);
+        long deadline = System.nanoTime() + SECONDS * 1_000_000_000L;
+        long nbOfPrograms = 0;
+        while (shouldContinue(nbOfPrograms, deadline)) {
+            List<Token> program = new ProgramGenerator(random).generate();
+            if (tokenizationFailure(program) != null) {
+                List<Token> reproducer = minimizeSeparators(minimize(program, p -> tokenizationFailure(p) != null));
+                fail("Seed " + SEED + ", program " + nbOfPrograms + ": " + tokenizationFailure(reproducer)
+                        + "\nReproducer: " + render(reproducer));
+            }
+            nbOfPrograms++;
+        }
+    }
+
+    @Test
+    public void testFuzz_mutatedPrograms() {
+        Random random = new Random(SEED);
+        long deadline = System.nanoTime() + SECONDS * 1_000_000_000L;
+        long nbOfPrograms = 0;
+        while (shouldContinue(nbOfPrograms, deadline)) {
+            String input = mutate(render(new ProgramGenerator(random).generate()), random);
+            if (robustnessFailure(input) != null) {
+                List<Character> reproducer = minimize(toCharacters(input), c -> robustnessFailure(fromCharacters(c)) != null);
+                fail("Seed " + SEED + ", program " + nbOfPrograms + ": " + robustnessFailure(fromCharacters(reproducer))
+                        + "\nReproducer: " + fromCharacters(reproducer));
+            }
+            nbOfPrograms++;
+        }
+    }
+
+    private static boolean shouldContinue(long nbOfPrograms, long deadline) {
+        if (SECONDS > 0) return System.nanoTime() < deadline;
+        return nbOfPrograms < PROGRAMS;
+    }
+
+    /**
+     * Lexes the rendered @tokens and compares the Symbols with the expected ones.
+     * @return a description of the first difference, null if there is none
+     */
+    private static String tokenizationFailure(List<Token> tokens) {
+        Lexer lexer = new Lexer(new StringReader(render(tokens)));
+        try {
+            for (int i = 0; i < tokens.size(); i++) {
+                Symbol symbol = lexer.getNextSymbol();
+                if (!tokens.get(i).expected().equals(symbol)) {
+                    return "Symbol " + i + ": expected " + describe(tokens.get(i).expected()) + " but got " + describe(symbol);
+                }
+            }
+            Symbol symbol = lexer.getNextSymbol();
+            if (!(symbol instanceof EOFSymbol)) {
+                return "expected EOFSymbol but got " + describe(symbol);
+            }
+        } catch (Exception | StackOverflowError e) {
+            return "threw " + e;
+        }
+        return null;
+    }
+
+    /**
+     * Lexes @input, which may not be a valid program.
+     * @return a description of the failure if the Lexer does anything else than giving Symbols until the EOFSymbol or
+     * throwing an UnauthorizedLangTokenException, null otherwise
+     */
+    private static String robustnessFailure(String input) {
+        Lexer lexer = new Lexer(new StringReader(input));
+        try {
+            // Every Symbol but the EOFSymbol consumes at least one character
+            for (int i = 0; i <= input.length(); i++) {
+                if (lexer.getNextSymbol() instanceof EOFSymbol) return null;
+            }
+            return "no EOFSymbol after " + (input.length() + 1) + " Symbols";
+        } catch (UnauthorizedLangTokenException ignored) {
+            return null;
+        } catch (Exception | StackOverflowError e) {
+            return "threw " + e;
+        }
+    }
+
+    private static String describe(Symbol symbol) {
+        return symbol.getClass().getSimpleName() + "(" + symbol + ")";
+    }
+
+    /**
+     * Renders @tokens as source code, adding a space wherever an empty separator would merge two tokens.
+     */
+    private static String render(List<Token> tokens) {
+        StringBuilder stringBuilder = new StringBuilder();
+        Token previous = null;
+        for (Token token : tokens) {
+            String separator = token.separator();
+            if (separator.isEmpty() && previous != null && needsSeparator(previous, token)) {
+                separator = " ";
+            }
+            stringBuilder.append(separator).append(token.text());
+            previous = token;
+        }
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Determines whether @previous and @next would be lexed differently if written without anything between them.
+     */
+    private static boolean needsSeparator(Token previous, Token next) {
+        char last = previous.text().charAt(previous.text().length() - 1);
+        char first = next.text().charAt(0);
+        boolean previousIsWord = !(previous.expected() instanceof StringValue) && isWordCharacter(last);
+        if (previousIsWord && isWordCharacter(first)) return true;
+        if (Character.isDigit(last) && first == '.') return true; // Would be read as a RealNumberValue
+        if (previous.expected() instanceof SpecialSymbol || previous.expected() instanceof SyntaxSpecialSymbol) {
+            return SpecialSymbol.isComplexSpecialSymbol("" + last + first) || (last == '/' && first == '/');
+        }
+        return false;
+    }
+
+    private static boolean isWordCharacter(char character) {
+        return Character.isLetterOrDigit(character) || character == '_';
+    }
+
+    /**
+     * Removes as many elements of @input as possible while @fails holds (delta debugging, removing chunks of
+     * decreasing size).
+     * @param input a failing input
+     * @param fails the failure to preserve
+     * @return a smaller input for which @fails still holds
+     */
+    private static <T> List<T> minimize(List<T> input, Predicate<List<T>> fails) {
+        int chunk = Math.max(1, input.size() / 2);
+        while (true) {
+            boolean removed = false;
+            int start = 0;
+            while (start < input.size()) {
+                List<T> candidate = new ArrayList<>(input.subList(0, start));
+                candidate.addAll(input.subList(Math.min(start + chunk, input.size()), input.size()));
+                if (fails.test(candidate)) {
+                    input = candidate;
+                    removed = true;
+                } else {
+                    start += chunk;
+                }
+            }
+            if (!removed) {
+                if (chunk == 1) return input;
+                chunk /= 2;
+            }
+        }
+    }
+
+    /**
+     * Replaces the separators of @tokens by the simplest ones that keep the failure.
+     */
+    private static List<Token> minimizeSeparators(List<Token> tokens) {
+        List<Token> result = new ArrayList<>(tokens);
+        for (int i = 0; i < result.size(); i++) {
+            for (String separator : new String[]{"", " "}) {
+                Token original = result.get(i);
+                result.set(i, original.withSeparator(separator));
+                if (tokenizationFailure(result) != null) break;
+                result.set(i, original);
+            }
+        }
+        return result;
+    }
+
+    private static String mutate(String input, Random random) {
+        StringBuilder stringBuilder = new StringBuilder(input);
+        int position = random.nextInt(stringBuilder.length() + 1);
+        switch (random.nextInt(4)) {
+            case 0 -> stringBuilder.insert(position, MUTATION_ALPHABET.charAt(random.nextInt(MUTATION_ALPHABET.length())));
+            case 1 -> {
+                if (position < stringBuilder.length()) stringBuilder.deleteCharAt(position);
+            }
+            case 2 -> {
+                int end = position + random.nextInt(Math.min(8, stringBuilder.length() - position) + 1);
+                stringBuilder.insert(end, stringBuilder.substring(position, end));
+            }
+            default -> {
+                if (position + 1 < stringBuilder.length()) {
+                    char character = stringBuilder.charAt(position);
+                    stringBuilder.setCharAt(position, stringBuilder.charAt(position + 1));
+                    stringBuilder.setCharAt(position + 1, character);
+                }
+            }
+        }
+        return stringBuilder.toString();
+    }
+
+    private static List<Character> toCharacters(String string) {
+        List<Character> characters = new ArrayList<>(string.length());
+        for (char character : string.toCharArray()) characters.add(character);
+        return characters;
+    }
+
+    private static String fromCharacters(List<Character> characters) {
+        StringBuilder stringBuilder = new StringBuilder(characters.size());
+        for (Character character : characters) stringBuilder.append(character);
+        return stringBuilder.toString();
+    }
+
+    /**
+     * Generates random programs following the grammar of the language (declarations, statements and expressions), or
+     * once in a while a random sequence of tokens to cover the adjacent tokens the grammar never produces.
+     */
+    private static class ProgramGenerator {
+        private static final String[] TYPES = new String[]{"int", "real", "bool", "string", "Point"};
+        private static final String[] OPERATORS = new String[]{
+                "+", "-", "*", "/", "%", "==", "<>", "<", ">", "<=", ">="
+        };
+        private static final String[] SYNTAX = new String[]{"(", ")", "{", "}", "[", "]", ".", ";", ","};
+        private static final String COMMENT_CHARACTERS = "abc 019\"\\\t/*#$=<>";
+        private static final String STRING_CHARACTERS = "abcXYZ 0189_./=<>+-*%(){}[];,#$!'\t";
+        private static final String IDENTIFIER_START = "abcdefghijklmnopqrstuvwxyzABCXYZ_";
+        private static final String IDENTIFIER_PART = IDENTIFIER_START + "0123456789";
+
+        private final Random random;
+        private final List<Token> tokens = new ArrayList<>();
+
+        ProgramGenerator(Random random) {
+            this.random = random;
+        }
+
+        List<Token> generate() {
+            if (random.nextInt(5) == 0) {
+                int length = 1 + random.nextInt(40);
+                while (tokens.size() < length) anyToken();
+            } else {
+                int nbOfDeclarations = 1 + random.nextInt(4);
+                for (int i = 0; i < nbOfDeclarations; i++) declaration();
+            }
+            return tokens;
+        }
+
+        private void declaration() {
+            switch (random.nextInt(3)) {
+                case 0 -> variable(pick(new String[]{"const", "var", "val"}));
+                case 1 -> record();
+                default -> procedure();
+            }
+        }
+
+        private void variable(String keyword) {
+            keyword(keyword);
+            identifier();
+            type();
+            operator("=");
+            expression(2);
+            syntax(";");
+        }
+
+        private void type() {
+            add(pick(TYPES), null);
+            if (random.nextInt(4) == 0) {
+                syntax("[");
+                syntax("]");
+            }
+        }
+
+        private void record() {
+            keyword("record");
+            identifier();
+            syntax("{");
+            int nbOfFields = random.nextInt(4);
+            for (int i = 0; i < nbOfFields; i++) {
+                identifier();
+                type();
+                syntax(";");
+            }
+            syntax("}");
+        }
+
+        private void procedure() {
+            keyword("proc");
+            identifier();
+            syntax("(");
+            int nbOfParameters = random.nextInt(3);
+            for (int i = 0; i < nbOfParameters; i++) {
+                if (i > 0) syntax(",");
+                identifier();
+                type();
+            }
+            syntax(")");
+            if (random.nextBoolean()) type();
+            block(2);
+        }
+
+        private void block(int depth) {
+            syntax("{");
+            int nbOfStatements = random.nextInt(4);
+            for (int i = 0; i < nbOfStatements; i++) statement(depth);
+            syntax("}");
+        }
+
+        private void statement(int depth) {
+            switch (depth == 0 ? random.nextInt(3) : random.nextInt(6)) {
+                case 0 -> {
+                    identifier();
+                    if (random.nextBoolean()) {
+                        syntax("[");
+                        expression(1);
+                        syntax("]");
+                    }
+                    operator("=");
+                    expression(2);
+                    syntax(";");
+                }
+                case 1 -> {
+                    keyword("return");
+                    expression(2);
+                    syntax(";");
+                }
+                case 2 -> variable(random.nextBoolean() ? "var" : "val");
+                case 3 -> {
+                    keyword("if");
+                    expression(2);
+                    block(depth - 1);
+                    if (random.nextBoolean()) {
+                        keyword("else");
+                        block(depth - 1);
+                    }
+                }
+                case 4 -> {
+                    keyword("while");
+                    expression(2);
+                    block(depth - 1);
+                }
+                default -> {
+                    keyword("for");
+                    identifier();
+                    operator("=");
+                    expression(1);
+                    keyword("to");
+                    expression(1);
+                    if (random.nextBoolean()) {
+                        keyword("by");
+                        expression(1);
+                    }
+                    block(depth - 1);
+                }
+            }
+        }
+
+        private void expression(int depth) {
+            primary(depth);
+            int nbOfOperations = random.nextInt(3);
+            for (int i = 0; i < nbOfOperations; i++) {
+                if (random.nextInt(4) == 0) keyword(random.nextBoolean() ? "and" : "or");
+                else operator(pick(OPERATORS));
+                primary(depth);
+            }
+        }
+
+        private void primary(int depth) {
+            switch (depth == 0 ? random.nextInt(5) : random.nextInt(9)) {
+                case 0 -> natural();
+                case 1 -> real();
+                case 2 -> string();
+                case 3 -> bool();
+                case 4 -> identifier();
+                case 5 -> {
+                    identifier();
+                    syntax(".");
+                    identifier();
+                }
+                case 6 -> {
+                    identifier();
+                    syntax("[");
+                    expression(depth - 1);
+                    syntax("]");
+                }
+                case 7 -> {
+                    identifier();
+                    syntax("(");
+                    int nbOfArguments = random.nextInt(3);
+                    for (int i = 0; i < nbOfArguments; i++) {
+                        if (i > 0) syntax(",");
+                        expression(depth - 1);
+                    }
+                    syntax(")");
+                }
+                default -> {
+                    syntax("(");
+                    expression(depth - 1);
+                    syntax(")");
+                }
+            }
+        }
+
+        private void anyToken() {
+            switch (random.nextInt(8)) {
+                case 0 -> keyword(pick(Keyword.getKeywords()));
+                case 1 -> identifier();
+                case 2 -> natural();
+                case 3 -> real();
+                case 4 -> string();
+                case 5 -> bool();
+                case 6 -> operator(pick(OPERATORS));
+                default -> syntax(pick(SYNTAX));
+            }
+        }
+
+        private void keyword(String keyword) {
+            add(keyword, new Keyword(keyword));
+        }
+
+        private void identifier() {
+            StringBuilder name = new StringBuilder();
+            if (random.nextInt(5) == 0) {
+                // Close to a Keyword or a BooleanValue, like "constt", "_var" or "true_"
+                name.append(random.nextBoolean() ? pick(Keyword.getKeywords()) : pick(BooleanValue.getBooleanValues()));
+                if (random.nextBoolean()) name.append(IDENTIFIER_PART.charAt(random.nextInt(IDENTIFIER_PART.length())));
+                else name.insert(0, '_');
+            } else {
+                name.append(IDENTIFIER_START.charAt(random.nextInt(IDENTIFIER_START.length())));
+                int length = random.nextInt(8);
+                for (int i = 0; i < length; i++) {
+                    name.append(IDENTIFIER_PART.charAt(random.nextInt(IDENTIFIER_PART.length())));
+                }
+            }
+            add(name.toString(), null);
+        }
+
+        private void natural() {
+            add(digits(1 + random.nextInt(4)), null);
+        }
+
+        private void real() {
+            add(digits(1 + random.nextInt(3)) + "." + digits(1 + random.nextInt(3)), null);
+        }
+
+        private void bool() {
+            add(pick(BooleanValue.getBooleanValues()), null);
+        }
+
+        private void string() {
+            StringBuilder text = new StringBuilder("\"");
+            StringBuilder value = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int i = 0; i < length; i++) {
+                switch (random.nextInt(8)) {
+                    case 0 -> {
+                        String[] escapes = new String[]{"\\\"", "\\\\", "\\n", "\\t"};
+                        String[] values = new String[]{"\"", "\\", "\n", "\t"};
+                        int escape = random.nextInt(escapes.length);
+                        text.append(escapes[escape]);
+                        value.append(values[escape]);
+                    }
+                    case 1 -> {
+                        text.append("//");
+                        value.append("//");
+                    }
+                    default -> {
+                        char character = STRING_CHARACTERS.charAt(random.nextInt(STRING_CHARACTERS.length()));
+                        text.append(character);
+                        value.append(character);
+                    }
+                }
+            }
+            text.append('"');
+            tokens.add(new Token(text.toString(), new StringValue(value.toString()), separator()));
+        }
+
+        private void operator(String operator) {
+            add(operator, SpecialSymbol.createSymbol(operator));
+        }
+
+        private void syntax(String syntax) {
+            add(syntax, SpecialSymbol.createSymbol(syntax));
+        }
+
+        /**
+         * Adds the token @text. If @expected is null, the expected Symbol is the one of a word or a number.
+         */
+        private void add(String text, Symbol expected) {
+            if (expected == null) {
+                if (Character.isDigit(text.charAt(0))) {
+                    expected = text.contains(".") ? new RealNumberValue(text) : new NaturalNumberValue(text);
+                } else if (Keyword.isAKeyword(text)) {
+                    expected = new Keyword(text);
+                } else if (BooleanValue.isABooleanValue(text)) {
+                    expected = new BooleanValue(text);
+                } else {
+                    expected = new Identifier(text);
+                }
+            }
+            tokens.add(new Token(text, expected, separator()));
+        }
+
+        private String separator() {
+            return switch (random.nextInt(10)) {
+                case 0, 1, 2, 3 -> "";
+                case 4, 5 -> " ";
+                case 6 -> "\n";
+                case 7 -> "\t ";
+                case 8 -> "\r\n  ";
+                default -> {
+                    StringBuilder comment = new StringBuilder(" //");
+                    int length = random.nextInt(10);
+                    for (int i = 0; i < length; i++) {
+                        comment.append(COMMENT_CHARACTERS.charAt(random.nextInt(COMMENT_CHARACTERS.length())));
+                    }
+                    yield comment.append('\n').toString();
+                }
+            };
+        }
+
+        private String digits(int length) {
+            StringBuilder digits = new StringBuilder();
+            for (int i = 0; i < length; i++) digits.append((char) ('0' + random.nextInt(10)));
+            return digits.toString();
+        }
+
+        private <T> T pick(T[] array) {
+            return array[random.nextInt(array.length)];
+        }
+    }
+}
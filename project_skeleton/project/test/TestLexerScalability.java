@@ -0,0 +1,273 @@
+import compiler.Lexer.Lexer;
+import compiler.Symbols.EOFSymbol;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+import static org.junit.Assert.*;
+
+/**
+ * Scalability suite of the Lexer: lexes inputs of growing size (from 1024 characters to
+ * lexer.scalability.maxCharacters, by a factor of 4) for several token mixes, and fails when the bytes allocated per
+ * token grow with the size of the input, when they exceed lexer.scalability.bytesPerToken, when the Lexer retains
+ * memory growing with the input (distinct names and literals included), or when its stack depth grows with the input.
+ * The time per character is only checked when lexer.scalability.checkTime is set (scalabilityTest task): wall-clock
+ * ratios are too noisy to gate the test task.
+ */
+public class TestLexerScalability {
+    private static final long MIN_CHARACTERS = 1024;
+    private static final long MAX_CHARACTERS = Long.getLong("lexer.scalability.maxCharacters", 1024L * 1024);
+    private static final long BYTES_PER_TOKEN_BUDGET = Long.getLong("lexer.scalability.bytesPerToken", 1024);
+    private static final boolean CHECK_TIME = Boolean.getBoolean("lexer.scalability.checkTime");
+    private static final double MAX_GROWTH = Double.parseDouble(System.getProperty("lexer.scalability.maxGrowth", "4"));
+    // Measurements on smaller inputs are dominated by the JIT warmup and the timer resolution
+    private static final long BASELINE_MIN_CHARACTERS = 64 * 1024;
+    // Heap the Lexer may retain whatever the size of the input
+    private static final long RETAINED_BYTES_BUDGET = 256 * 1024;
+    // Frames the deepest sampled stack may gain from the baseline input to the largest one (sampling noise)
+    private static final int STACK_GROWTH_BUDGET = 16;
+    // The stack depth is sampled every time the Lexer's BufferedReader refills this many characters
+    private static final int STACK_SAMPLING_PERIOD = 1024;
+
+    private static final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * A mix of tokens, made of units repeated until the input has the wanted size.
+     * @param name name shown in the report
+     * @param unit gives the source code of the unit of given index
+     * @param withinBudget whether the bytes allocated per token must be within lexer.scalability.bytesPerToken,
+     *                     false when the tokens are so long that the allocations are proportional to them
+     */
+    private record TokenMix(String name, LongFunction<String> unit, boolean withinBudget) {
+        static TokenMix repeating(String name, String unit, boolean withinBudget) {
+            return new TokenMix(name, index -> unit, withinBudget);
+        }
+    }
+
+    private static final TokenMix[] MIXES = new TokenMix[]{
+            TokenMix.repeating("declarations", "var counter_2 int = counter + 1;\nproc square(v int) int { return v*v; }\n", true),
+            TokenMix.repeating("numbers", "1234 56.78 9 0.5 42 3.14159 7\n", true),
+            TokenMix.repeating("strings", "\"hello \\\"world\\\"\\n\" \"\" \"// not a comment\\t\"\n", true),
+            TokenMix.repeating("operators", "a==b<>c<=d>=e+f-g*h/i%j(k)[l]{m}.n;o,p=q<r>s\n", true),
+            TokenMix.repeating("comments", "// a comment line, skipped by the lexer\nx\n", true),
+            TokenMix.repeating("whitespaces", "   \t \n\n\r\n   \t\t y\n", true),
+            TokenMix.repeating("comment block", "// only comment lines, a single EOFSymbol at the end\n", true),
+            TokenMix.repeating("long tokens", "\"" + "x".repeat(4000) + "\" " + "_" + "a1".repeat(2000) + "\n", false),
+            // As in machine-generated sources: every name and literal is new, nothing may be kept for them
+            new TokenMix("distinct names", index -> "var name_" + index + " string = \"literal " + index + "\";\n", true),
+    };
+
+    /**
+     * Measurement of the lexing of one input.
+     */
+    private record Measure(long characters, long tokens, long nanos, long allocatedBytes) {
+        double nanosPerCharacter() {
+            return (double) nanos / characters;
+        }
+
+        double allocatedBytesPerToken() {
+            return (double) allocatedBytes / tokens;
+        }
+    }
+
+    @Test
+    public void testScalability_timeAndAllocations() throws IOException {
+        for (TokenMix mix : MIXES) {
+            measure(mix, BASELINE_MIN_CHARACTERS); // JIT warmup
+            List<Measure> measures = new ArrayList<>();
+            for (long characters = MIN_CHARACTERS; characters <= MAX_CHARACTERS; characters *= 4) {
+                Measure measure = measure(mix, characters);
+                measures.add(measure);
+                System.out.printf("%-14s %12d chars %10d tokens %10.2f ns/char %10.1f B/token%n", mix.name(),
+                        measure.characters(), measure.tokens(), measure.nanosPerCharacter(),
+                        measure.allocatedBytesPerToken());
+            }
+            Measure largest = measures.get(measures.size() - 1);
+            double bestNanosPerCharacter = Double.MAX_VALUE;
+            double bestBytesPerToken = Double.MAX_VALUE;
+            for (Measure measure : measures) {
+                if (measure.characters() < BASELINE_MIN_CHARACTERS && measure != largest) continue;
+                bestNanosPerCharacter = Math.min(bestNanosPerCharacter, measure.nanosPerCharacter());
+                bestBytesPerToken = Math.min(bestBytesPerToken, measure.allocatedBytesPerToken());
+            }
+            if (CHECK_TIME) {
+                assertTrue(mix.name() + ": lexing time grows superlinearly (" + largest.nanosPerCharacter()
+                                + " ns/char for " + largest.characters() + " characters, best " + bestNanosPerCharacter
+                                + " ns/char)",
+                        largest.nanosPerCharacter() <= MAX_GROWTH * bestNanosPerCharacter);
+            }
+            assertTrue(mix.name() + ": allocations per token grow with the input (" + largest.allocatedBytesPerToken()
+                            + " B/token for " + largest.characters() + " characters, best " + bestBytesPerToken
+                            + " B/token)",
+                    largest.allocatedBytesPerToken() <= 1.5 * bestBytesPerToken);
+            if (mix.withinBudget()) {
+                assertTrue(mix.name() + ": " + largest.allocatedBytesPerToken() + " B/token allocated, budget is "
+                        + BYTES_PER_TOKEN_BUDGET, largest.allocatedBytesPerToken() <= BYTES_PER_TOKEN_BUDGET);
+            }
+        }
+    }
+
+    @Test
+    public void testScalability_retainedHeap() throws IOException {
+        MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+        for (TokenMix mix : MIXES) {
+            RepeatingReader reader = new RepeatingReader(mix.unit(), MAX_CHARACTERS);
+            Lexer lexer = new Lexer(new BufferedReader(reader));
+            long before = usedHeapAfterGc(memoryMXBean);
+            long tokens = lexAll(lexer);
+            // The Lexer is still reachable here: it may not keep anything growing with the input, not even strings
+            long retained = Math.max(0, usedHeapAfterGc(memoryMXBean) - before);
+            System.out.printf("%-14s %12d chars %10d tokens %10d B retained%n", mix.name(), reader.getNbOfCharacters(),
+                    tokens, retained);
+            assertTrue(mix.name() + ": " + retained + " B retained after " + tokens + " tokens, budget is "
+                    + RETAINED_BYTES_BUDGET, retained <= RETAINED_BYTES_BUDGET);
+            assertNotNull(lexer);
+        }
+    }
+
+    @Test
+    public void testScalability_stackDepth() throws IOException {
+        for (TokenMix mix : MIXES) {
+            int baselineDepth = deepestStack(mix, BASELINE_MIN_CHARACTERS);
+            int largestDepth = deepestStack(mix, MAX_CHARACTERS);
+            System.out.printf("%-14s %12d chars %6d frames %12d chars %6d frames%n", mix.name(),
+                    BASELINE_MIN_CHARACTERS, baselineDepth, MAX_CHARACTERS, largestDepth);
+            assertTrue(mix.name() + ": stack depth grows with the input (" + largestDepth + " frames for "
+                            + MAX_CHARACTERS + " characters, " + baselineDepth + " for " + BASELINE_MIN_CHARACTERS + ")",
+                    largestDepth <= baselineDepth + STACK_GROWTH_BUDGET);
+        }
+    }
+
+    /**
+     * Lexes about @characters of @mix and samples the depth of the stack whenever the Lexer reads from the input.
+     * @return the largest number of frames sampled between lexAll() and the read, both excluded
+     */
+    private static int deepestStack(TokenMix mix, long characters) throws IOException {
+        StackSamplingReader reader = new StackSamplingReader(new RepeatingReader(mix.unit(), characters));
+        lexAll(new Lexer(new BufferedReader(reader, STACK_SAMPLING_PERIOD)));
+        return reader.getDeepestStack();
+    }
+
+    /**
+     * Lexes about @characters of @mix through a BufferedReader, as the Compiler does.
+     * @return the measurement, with the number of characters actually read
+     */
+    private static Measure measure(TokenMix mix, long characters) throws IOException {
+        RepeatingReader reader = new RepeatingReader(mix.unit(), characters);
+        Lexer lexer = new Lexer(new BufferedReader(reader));
+        long allocatedBytes = threadMXBean.getCurrentThreadAllocatedBytes();
+        long nanos = System.nanoTime();
+        long tokens = lexAll(lexer);
+        nanos = System.nanoTime() - nanos;
+        allocatedBytes = threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBytes;
+        return new Measure(reader.getNbOfCharacters(), tokens, nanos, allocatedBytes);
+    }
+
+    /**
+     * Reads all the Symbols of @lexer, without keeping them.
+     * @return the number of Symbols read, EOFSymbol included
+     */
+    private static long lexAll(Lexer lexer) throws IOException {
+        long tokens = 1;
+        while (!(lexer.getNextSymbol() instanceof EOFSymbol)) tokens++;
+        return tokens;
+    }
+
+    private static long usedHeapAfterGc(MemoryMXBean memoryMXBean) {
+        System.gc();
+        System.gc();
+        return memoryMXBean.getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Reader giving the units 0, 1, 2... of a TokenMix until at least @size characters were read (always whole units,
+     * at least one), so that inputs of any size can be lexed without being held in memory.
+     */
+    private static class RepeatingReader extends Reader {
+        private final LongFunction<String> units;
+        private final long size;
+        private long unitIndex = 0;
+        private String unit;
+        private int position = 0;
+        private long nbOfCharacters = 0;
+
+        RepeatingReader(LongFunction<String> units, long size) {
+            this.units = units;
+            this.size = size;
+            this.unit = units.apply(0);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            int read = 0;
+            while (read < length && unit != null) {
+                int count = Math.min(length - read, unit.length() - position);
+                unit.getChars(position, position + count, buffer, offset + read);
+                read += count;
+                position += count;
+                nbOfCharacters += count;
+                if (position == unit.length()) {
+                    position = 0;
+                    unit = nbOfCharacters < size ? units.apply(++unitIndex) : null;
+                }
+            }
+            return read == 0 && length > 0 ? -1 : read;
+        }
+
+        /**
+         * Gives the number of characters read so far, the size of the input once it was read entirely.
+         * @return number of characters read
+         */
+        long getNbOfCharacters() {
+            return nbOfCharacters;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /**
+     * Reader forwarding to another one, which counts the frames of the current thread between lexAll() and each read.
+     */
+    private static class StackSamplingReader extends Reader {
+        private static final StackWalker stackWalker = StackWalker.getInstance();
+        private final Reader input;
+        private int deepestStack = 0;
+
+        StackSamplingReader(Reader input) {
+            this.input = input;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int depth = stackWalker.walk(frames -> (int) frames
+                    .skip(1) // this read
+                    .takeWhile(frame -> !frame.getMethodName().equals("lexAll"))
+                    .count());
+            deepestStack = Math.max(deepestStack, depth);
+            return input.read(buffer, offset, length);
+        }
+
+        /**
+         * Gives the largest number of frames sampled so far.
+         * @return depth of the deepest stack
+         */
+        int getDeepestStack() {
+            return deepestStack;
+        }
+
+        @Override
+        public void close() throws IOException {
+            input.close();
+        }
+    }
+}